@@ -0,0 +1,209 @@
+/**
+ * @file						FrameSource.java
+ * @author					juan.diaz
+ * @date						19/10/2026
+ * @copyright		  	Jucardi. All Rights Reserved.
+ *
+ *  This software may be modified and distributed under the terms
+ *  of the MIT license.  See the LICENSE file for details.
+ */
+package com.jucardi.gui.forms;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Source of frames for live feeds shown in a PictureBox. A producer thread writes each frame into one of a fixed pool
+ * of reused buffers (double or triple buffering) and commits it; the PictureBox always draws the newest committed
+ * frame. A frame committed while a newer one is committed before it is drawn is dropped, never queued, so a lagging
+ * UI skips frames instead of falling behind.
+ *
+ * <pre>
+ * BufferedImage frame = source.beginFrame();
+ * // write the pixels of the frame
+ * source.commitFrame();
+ * </pre>
+ */
+public class FrameSource
+{
+	// region Fields
+
+	private final Object          lock = new Object();
+	private final BufferedImage[] buffers;
+	private final int             width;
+	private final int             height;
+	private int                   front   = -1;
+	private int                   ready   = -1;
+	private int                   writing = -1;
+	private long                  renderedFrames;
+	private long                  droppedFrames;
+	private boolean               notifyPending;
+	private Runnable              frameListener;
+
+	// endregion
+
+	// region Constructor
+
+	/** Creates a triple buffered source of TYPE_INT_RGB frames. */
+	public FrameSource(int width, int height)
+	{
+		this(width, height, BufferedImage.TYPE_INT_RGB, 3);
+	}
+
+	/**
+	 * Creates a frame source.
+	 *
+	 * @param width       The width of the frames.
+	 * @param height      The height of the frames.
+	 * @param imageType   The BufferedImage type of the frames.
+	 * @param bufferCount 2 for double buffering or 3 for triple buffering.
+	 */
+	public FrameSource(int width, int height, int imageType, int bufferCount)
+	{
+		if (bufferCount < 2 || bufferCount > 3)
+			throw new IllegalArgumentException("bufferCount must be 2 or 3");
+
+		this.width = width;
+		this.height = height;
+		this.buffers = new BufferedImage[bufferCount];
+
+		for (int i = 0; i < bufferCount; i++)
+			this.buffers[i] = new BufferedImage(width, height, imageType);
+	}
+
+	// endregion
+
+	// region Properties
+
+	/** Gets the width of the frames. */
+	public int getWidth()
+	{
+		return this.width;
+	}
+
+	/** Gets the height of the frames. */
+	public int getHeight()
+	{
+		return this.height;
+	}
+
+	/** Gets the amount of frames that have been drawn. */
+	public long getRenderedFrameCount()
+	{
+		synchronized (this.lock)
+		{
+			return this.renderedFrames;
+		}
+	}
+
+	/** Gets the amount of committed frames that were replaced by a newer one before being drawn. */
+	public long getDroppedFrameCount()
+	{
+		synchronized (this.lock)
+		{
+			return this.droppedFrames;
+		}
+	}
+
+	/** Sets the listener notified from the producer thread when a new frame is available. */
+	void setFrameListener(Runnable value)
+	{
+		synchronized (this.lock)
+		{
+			this.frameListener = value;
+			this.notifyPending = false;
+		}
+	}
+
+	// endregion
+
+	// region Methods
+
+	/**
+	 * Gets the buffer the next frame should be written into. The buffer is never the one being displayed and must not be
+	 * used after {@link #commitFrame()}.
+	 *
+	 * @throws IllegalStateException if the previous frame has not been committed.
+	 */
+	public BufferedImage beginFrame()
+	{
+		synchronized (this.lock)
+		{
+			if (this.writing != -1)
+				throw new IllegalStateException("The previous frame has not been committed.");
+
+			this.writing = this.findFreeBuffer();
+
+			// Double buffering with an undrawn frame; overwrite it.
+			if (this.writing == -1)
+			{
+				this.writing = this.ready;
+				this.ready = -1;
+				this.droppedFrames++;
+			}
+
+			return this.buffers[this.writing];
+		}
+	}
+
+	/**
+	 * Publishes the frame written since {@link #beginFrame()}, replacing any committed frame that has not been drawn yet.
+	 *
+	 * @throws IllegalStateException if no frame is being written.
+	 */
+	public void commitFrame()
+	{
+		Runnable listener;
+
+		synchronized (this.lock)
+		{
+			if (this.writing == -1)
+				throw new IllegalStateException("No frame is being written.");
+
+			if (this.ready != -1)
+				this.droppedFrames++;
+
+			this.ready = this.writing;
+			this.writing = -1;
+
+			if (this.notifyPending || this.frameListener == null)
+				return;
+
+			this.notifyPending = true;
+			listener = this.frameListener;
+		}
+
+		listener.run();
+	}
+
+	/** Gets the newest committed frame to be drawn, or null if none has been committed yet. */
+	BufferedImage acquireFrame()
+	{
+		synchronized (this.lock)
+		{
+			this.notifyPending = false;
+
+			if (this.ready != -1)
+			{
+				this.front = this.ready;
+				this.ready = -1;
+				this.renderedFrames++;
+			}
+
+			return this.front != -1 ? this.buffers[this.front] : null;
+		}
+	}
+
+	/** Gets a buffer that is neither displayed, committed nor being written; -1 if there is none. */
+	private int findFreeBuffer()
+	{
+		for (int i = 0; i < this.buffers.length; i++)
+		{
+			if (i != this.front && i != this.ready && i != this.writing)
+				return i;
+		}
+
+		return -1;
+	}
+
+	// endregion
+}
@@ -11,10 +11,48 @@ package com.jucardi.gui.forms;
 
 import com.jucardi.gui.forms.DisplayInfo;
 
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.Image;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.AbstractMultiResolutionImage;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ImageObserver;
+import java.awt.image.MultiResolutionImage;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.event.IIOReadUpdateListener;
+import javax.imageio.stream.ImageInputStream;
 import javax.swing.ImageIcon;
 import javax.swing.JPanel;
 import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
 
 
 public class PictureBox extends JPanel
@@ -22,11 +60,48 @@ public class PictureBox extends JPanel
 	// region Fields
 
 	private static final long serialVersionUID = 7603624253977899404L;
+	private static final int    TILE_CACHE_SIZE     = 256;
+	private static final double ZOOM_STEP           = 1.25;
+	private static final double MAX_ZOOM            = 32.0;
+	private static final int    RENDITION_COUNT     = 4;
+	private static final int    MAX_UPSCALED_PIXELS = 512 * 512;
+
+	private static final ColorModel OPAQUE_COLOR_MODEL      = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB).getColorModel();
+	private static final ColorModel TRANSLUCENT_COLOR_MODEL = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB_PRE).getColorModel();
+
+	private static final ExecutorService LOADER = Executors.newCachedThreadPool(new ThreadFactory() {
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, "PictureBox Loader");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
 	private JLabel pictureArea = new JLabel();
 
 	private Image image;
 	private Object tag;
 	private SizeMode sizeMode = SizeMode.NORMAL;
+	private transient TilePyramid tilePyramid;
+	private double zoom = 1.0;
+	private double viewX;
+	private double viewY;
+	private Point dragOrigin;
+	private final PanZoomListener panZoomListener = new PanZoomListener();
+	private boolean isPanZoomListenerInstalled;
+	private transient ImageLoad imageLoad;
+	private transient FrameSource frameSource;
+	private final Rectangle frameBounds = new Rectangle();
+	private transient List<Image> resolutionVariants = new ArrayList<Image>();
+	private transient Map<Dimension, Image> renditions = new LinkedHashMap<Dimension, Image>(8, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(Map.Entry<Dimension, Image> eldest)
+		{
+			return this.size() > RENDITION_COUNT;
+		}
+	};
 
 	// endregion
 
@@ -37,6 +112,15 @@ public class PictureBox extends JPanel
 		this.setLayout(null);
 		this.pictureArea.setLocation(0, 0);
 		this.add(pictureArea);
+
+		// Moving to a screen with a different scale factor needs a rendition at a different resolution.
+		this.addPropertyChangeListener("graphicsConfiguration", new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent e)
+			{
+				if (sizeMode != SizeMode.PAN_ZOOM && frameSource == null)
+					update();
+			}
+		});
 	}
 
 	// endregion
@@ -49,10 +133,56 @@ public class PictureBox extends JPanel
 		return this.image;
 	}
 
-	/** Sets the value of the 'Image' property */
+	/** Sets the value of the 'Image' property, cancelling any image being loaded. */
 	public void setImage(Image value)
+	{
+		this.cancelLoad();
+		this.showImage(value, false);
+	}
+
+	/**
+	 * Decodes an image file on a background thread and shows it. Progressive JPEGs and interlaced PNGs are shown as soon
+	 * as their first coarse pass is decoded and refined in place with every following pass. If decoding fails the
+	 * control is left without an image, even if earlier passes were shown. Setting or loading a different image cancels
+	 * the load.
+	 */
+	public void loadImage(File file)
+	{
+		this.startLoad(file);
+	}
+
+	/**
+	 * Decodes an image from a stream on a background thread and shows it, refining it pass by pass like
+	 * {@link #loadImage(File)}. The stream is closed when decoding finishes or is cancelled.
+	 */
+	public void loadImage(InputStream stream)
+	{
+		this.startLoad(stream);
+	}
+
+	/** Indicates whether an image is being loaded in the background. */
+	public boolean isLoading()
+	{
+		return this.imageLoad != null;
+	}
+
+	/**
+	 * Shows the given image. A refinement replaces the pixels of an image with the same size, so in PAN_ZOOM mode only
+	 * the tiles are rebuilt and the current pan and zoom are kept.
+	 */
+	private void showImage(Image value, boolean isRefinement)
 	{
 		this.image = value;
+		this.resolutionVariants.clear();
+		this.renditions.clear();
+
+		if (isRefinement && value != null && this.sizeMode == SizeMode.PAN_ZOOM && this.frameSource == null)
+		{
+			this.disposeTilePyramid();
+			this.repaint();
+			return;
+		}
+
 		this.update();
 	}
 
@@ -68,6 +198,38 @@ public class PictureBox extends JPanel
 	public void setSizeMode(SizeMode value)
 	{
 		this.sizeMode = value;
+		this.updatePanZoomListener();
+		this.update();
+	}
+
+	/** Gets the source of live frames shown by this control, or null if it shows the 'Image' property. */
+	public FrameSource getFrameSource()
+	{
+		return this.frameSource;
+	}
+
+	/**
+	 * Sets a source of live frames to be shown instead of the 'Image' property, positioned according to the 'SizeMode'
+	 * property (PAN_ZOOM behaves like ZOOM). Frames are drawn straight from the source buffers, without allocating scaled
+	 * copies. Set to null to show the 'Image' property again.
+	 */
+	public void setFrameSource(FrameSource value)
+	{
+		if (this.frameSource != null)
+			this.frameSource.setFrameListener(null);
+
+		this.frameSource = value;
+
+		if (this.frameSource != null)
+		{
+			this.frameSource.setFrameListener(new Runnable() {
+				public void run()
+				{
+					repaint();
+				}
+			});
+		}
+
 		this.update();
 	}
 
@@ -87,28 +249,60 @@ public class PictureBox extends JPanel
 
 	// region Methods
 
+	@Override
+	protected void paintComponent(Graphics g)
+	{
+		super.paintComponent(g);
+
+		if (this.frameSource != null)
+			this.paintFrame((Graphics2D) g);
+		else if (this.sizeMode == SizeMode.PAN_ZOOM && this.image != null)
+			this.paintTiles((Graphics2D) g);
+	}
+
 	/** Updates the image. */
 	private void update()
 	{
+		this.disposeTilePyramid();
+
+		if (this.frameSource != null)
+		{
+			this.pictureArea.setIcon(null);
+
+			if (this.sizeMode == SizeMode.AUTOSIZE)
+				this.setSize(this.frameSource.getWidth() + 2, this.frameSource.getHeight() + 2);
+
+			this.repaint();
+			return;
+		}
+
 		if (this.image == null)
 		{
 			this.pictureArea.setIcon(null);
 			return;
 		}
 
+		if (this.sizeMode == SizeMode.PAN_ZOOM)
+		{
+			this.pictureArea.setIcon(null);
+			this.resetView();
+			this.repaint();
+			return;
+		}
 
-		Image img = this.proccessImage(this.image);
-		this.pictureArea.setSize(img.getWidth(null), img.getHeight(null));
-		this.pictureArea.setIcon(new ImageIcon(img));
+		Dimension size = this.getDisplaySize();
+		Image img = this.proccessImage(size);
+		this.pictureArea.setSize(size);
+		this.pictureArea.setIcon(new CompatibleImageIcon(img, size.width, size.height));
 
 		switch (this.sizeMode)
 		{
 			case ZOOM:
 			case CENTER:
-				this.pictureArea.setLocation((this.getWidth() - img.getWidth(null)) / 2, (this.getHeight() - img.getHeight(null)) / 2);
+				this.pictureArea.setLocation((this.getWidth() - size.width) / 2, (this.getHeight() - size.height) / 2);
 				break;
 			case AUTOSIZE:
-				this.setSize(img.getWidth(null), img.getHeight(null));
+				this.setSize(size);
 			case NORMAL:
 			case STRETCH:
 				this.pictureArea.setLocation(1, 1);
@@ -116,9 +310,10 @@ public class PictureBox extends JPanel
 		}
 	}
 
-	/** Processes the given image to get a preview image based on the control settings. */
-	private Image proccessImage(Image img)
+	/** Gets the size, in logical pixels, the image is displayed at based on the control settings. */
+	private Dimension getDisplaySize()
 	{
+		Image img = this.image;
 		int width = 0;
 		int height = 0;
 
@@ -127,7 +322,7 @@ public class PictureBox extends JPanel
 			case NORMAL:
 			case CENTER:
 			case AUTOSIZE:
-				return this.image;
+				return new Dimension(img.getWidth(null), img.getHeight(null));
 			case STRETCH:
 				width = this.getWidth();
 				height = this.getHeight();
@@ -150,7 +345,730 @@ public class PictureBox extends JPanel
 				break;
 		}
 
-		return img.getScaledInstance(width - 2, height - 2, Image.SCALE_SMOOTH);
+		return new Dimension(Math.max(1, width - 2), Math.max(1, height - 2));
+	}
+
+	/**
+	 * Processes the image to get a preview of the given logical size at the resolution of the current screen. The
+	 * resolution variant closest to the device pixel size is downscaled to it once, and the result is cached so switching
+	 * between scale factors or sizes does not rescale again. A smaller variant is only enlarged ahead of time when the
+	 * result is small; otherwise it is kept as is and the icon scales it while painting.
+	 */
+	private Image proccessImage(Dimension size)
+	{
+		double scale = this.getDeviceScale();
+		Dimension deviceSize = new Dimension(Math.max(1, (int) Math.round(size.width * scale)), Math.max(1, (int) Math.round(size.height * scale)));
+		Image rendition = this.renditions.get(deviceSize);
+
+		if (rendition != null)
+			return rendition;
+
+		// A preview is replaced by the next pass, so it is drawn scaled instead of rescaled for every pass.
+		if (this.image instanceof PreviewImage)
+			return ((PreviewImage) this.image).getBaseImage();
+
+		Image variant = this.getResolutionVariant(deviceSize.width, deviceSize.height);
+		int variantWidth = variant.getWidth(null);
+		int variantHeight = variant.getHeight(null);
+
+		boolean isShrinking = variantWidth > deviceSize.width || variantHeight > deviceSize.height;
+		boolean isSmall = (long) deviceSize.width * deviceSize.height <= MAX_UPSCALED_PIXELS;
+
+		if (variantWidth == deviceSize.width && variantHeight == deviceSize.height)
+			rendition = variant;
+		else if (isShrinking || isSmall)
+			rendition = this.scaleImage(variant, deviceSize.width, deviceSize.height);
+		else
+			rendition = variant;
+
+		this.renditions.put(deviceSize, rendition);
+		return rendition;
+	}
+
+	/** Gets the scale between logical and device pixels of the current screen. */
+	private double getDeviceScale()
+	{
+		GraphicsConfiguration gc = this.getGraphicsConfiguration();
+		return gc != null ? gc.getDefaultTransform().getScaleX() : 1.0;
+	}
+
+	/**
+	 * Gets the smallest resolution variant at least as large as the given device size, or the largest one if none is.
+	 * For plain images the variants are successive halvings of the image, generated on demand.
+	 */
+	private Image getResolutionVariant(int width, int height)
+	{
+		if (this.image instanceof MultiResolutionImage)
+		{
+			Image best = null;
+
+			for (Image variant : ((MultiResolutionImage) this.image).getResolutionVariants())
+			{
+				boolean covers = variant.getWidth(null) >= width && variant.getHeight(null) >= height;
+				boolean bestCovers = best != null && best.getWidth(null) >= width && best.getHeight(null) >= height;
+
+				if (best == null
+					|| (covers && (!bestCovers || variant.getWidth(null) < best.getWidth(null)))
+					|| (!covers && !bestCovers && variant.getWidth(null) > best.getWidth(null)))
+					best = variant;
+			}
+
+			return best;
+		}
+
+		if (this.resolutionVariants.isEmpty())
+			this.resolutionVariants.add(new ImageIcon(this.image).getImage());
+
+		Image variant = this.resolutionVariants.get(this.resolutionVariants.size() - 1);
+
+		while (variant.getWidth(null) / 2 >= width && variant.getHeight(null) / 2 >= height)
+		{
+			variant = this.scaleImage(variant, (variant.getWidth(null) + 1) / 2, (variant.getHeight(null) + 1) / 2);
+			this.resolutionVariants.add(variant);
+		}
+
+		for (int i = this.resolutionVariants.size() - 1; i >= 0; i--)
+		{
+			variant = this.resolutionVariants.get(i);
+
+			if (variant.getWidth(null) >= width && variant.getHeight(null) >= height)
+				return variant;
+		}
+
+		return this.resolutionVariants.get(0);
+	}
+
+	/** Scales an image into a new image compatible with the current screen. */
+	private BufferedImage scaleImage(Image img, int width, int height)
+	{
+		BufferedImage result = PictureBox.createCompatibleImage(this.getGraphicsConfiguration(), width, height, PictureBox.getTransparency(img));
+		Graphics2D g = result.createGraphics();
+
+		try
+		{
+			// Enlarging only happens once per rendition, so it can afford the smoother filter.
+			boolean isEnlarging = width > img.getWidth(null) || height > img.getHeight(null);
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, isEnlarging ? RenderingHints.VALUE_INTERPOLATION_BICUBIC : RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(img, 0, 0, width, height, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+
+		return result;
+	}
+
+	/** Paints the newest frame of the frame source. */
+	private void paintFrame(Graphics2D g)
+	{
+		BufferedImage frame = this.frameSource.acquireFrame();
+
+		if (frame == null)
+			return;
+
+		Rectangle bounds = this.getFrameBounds(frame.getWidth(), frame.getHeight());
+
+		if (bounds.width != frame.getWidth() || bounds.height != frame.getHeight())
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+		g.drawImage(frame, bounds.x, bounds.y, bounds.width, bounds.height, null);
+	}
+
+	/** Computes where a frame of the given size is drawn for the current size mode, reusing the same rectangle. */
+	private Rectangle getFrameBounds(int frameWidth, int frameHeight)
+	{
+		switch (this.sizeMode)
+		{
+			case STRETCH:
+				this.frameBounds.setBounds(1, 1, this.getWidth() - 2, this.getHeight() - 2);
+				break;
+			case ZOOM:
+			case PAN_ZOOM:
+				double scale = Math.min((double) (this.getWidth() - 2) / frameWidth, (double) (this.getHeight() - 2) / frameHeight);
+				int width = (int) (frameWidth * scale);
+				int height = (int) (frameHeight * scale);
+				this.frameBounds.setBounds((this.getWidth() - width) / 2, (this.getHeight() - height) / 2, width, height);
+				break;
+			case CENTER:
+				this.frameBounds.setBounds((this.getWidth() - frameWidth) / 2, (this.getHeight() - frameHeight) / 2, frameWidth, frameHeight);
+				break;
+			default:
+				this.frameBounds.setBounds(1, 1, frameWidth, frameHeight);
+				break;
+		}
+
+		return this.frameBounds;
+	}
+
+	/**
+	 * Installs the pan and zoom mouse listeners only while in PAN_ZOOM mode. AWT delivers wheel events to the deepest
+	 * component with a wheel listener, so a permanent one would keep enclosing scroll panes from scrolling.
+	 */
+	private void updatePanZoomListener()
+	{
+		boolean install = this.sizeMode == SizeMode.PAN_ZOOM;
+
+		if (install == this.isPanZoomListenerInstalled)
+			return;
+
+		if (install)
+		{
+			this.addMouseListener(this.panZoomListener);
+			this.addMouseMotionListener(this.panZoomListener);
+			this.addMouseWheelListener(this.panZoomListener);
+		}
+		else
+		{
+			this.removeMouseListener(this.panZoomListener);
+			this.removeMouseMotionListener(this.panZoomListener);
+			this.removeMouseWheelListener(this.panZoomListener);
+			this.dragOrigin = null;
+		}
+
+		this.isPanZoomListenerInstalled = install;
+	}
+
+	/** Fits the whole image in the control, centered. */
+	private void resetView()
+	{
+		int imgWidth = this.image.getWidth(null);
+		int imgHeight = this.image.getHeight(null);
+
+		if (imgWidth <= 0 || imgHeight <= 0 || this.getWidth() <= 0 || this.getHeight() <= 0)
+		{
+			this.zoom = 1.0;
+			this.viewX = 0;
+			this.viewY = 0;
+			return;
+		}
+
+		this.zoom = Math.min(1.0, Math.min((double) this.getWidth() / imgWidth, (double) this.getHeight() / imgHeight));
+		this.viewX = (imgWidth - this.getWidth() / this.zoom) / 2;
+		this.viewY = (imgHeight - this.getHeight() / this.zoom) / 2;
+	}
+
+	/** Releases the tile pyramid, if any. */
+	private void disposeTilePyramid()
+	{
+		if (this.tilePyramid == null)
+			return;
+
+		this.tilePyramid.dispose();
+		this.tilePyramid = null;
+	}
+
+	/** Gets the tile pyramid of the current image, rebuilding it if the control moved to a different screen. */
+	private TilePyramid getTilePyramid()
+	{
+		GraphicsConfiguration gc = this.getGraphicsConfiguration();
+
+		if (this.tilePyramid != null && this.tilePyramid.getConfiguration() == gc)
+			return this.tilePyramid;
+
+		this.disposeTilePyramid();
+		this.tilePyramid = new TilePyramid(this.image, gc, TILE_CACHE_SIZE, new Runnable() {
+			public void run()
+			{
+				repaint();
+			}
+		});
+
+		return this.tilePyramid;
+	}
+
+	/** Paints the visible tiles of the nearest pyramid level for the current zoom. */
+	private void paintTiles(Graphics2D g)
+	{
+		TilePyramid pyramid = this.getTilePyramid();
+		int level = pyramid.getLevelForScale(this.zoom);
+		double tileSpan = (double) (TilePyramid.TILE_SIZE << level);
+
+		int firstColumn = Math.max(0, (int) Math.floor(this.viewX / tileSpan));
+		int firstRow = Math.max(0, (int) Math.floor(this.viewY / tileSpan));
+		int lastColumn = Math.min(pyramid.getColumnCount(level) - 1, (int) Math.floor((this.viewX + this.getWidth() / this.zoom) / tileSpan));
+		int lastRow = Math.min(pyramid.getRowCount(level) - 1, (int) Math.floor((this.viewY + this.getHeight() / this.zoom) / tileSpan));
+
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		pyramid.beginFrame(Math.max(0, lastColumn - firstColumn + 1) * Math.max(0, lastRow - firstRow + 1));
+
+		for (int row = firstRow; row <= lastRow; row++)
+		{
+			for (int column = firstColumn; column <= lastColumn; column++)
+			{
+				int x1 = this.toScreenX(column * tileSpan);
+				int y1 = this.toScreenY(row * tileSpan);
+				int x2 = this.toScreenX(Math.min((column + 1) * tileSpan, pyramid.getWidth()));
+				int y2 = this.toScreenY(Math.min((row + 1) * tileSpan, pyramid.getHeight()));
+
+				BufferedImage tile = pyramid.getTile(level, column, row);
+
+				if (tile != null)
+					g.drawImage(tile, x1, y1, x2 - x1, y2 - y1, null);
+				else
+					this.paintCoarserTile(g, pyramid, level, column, row, x1, y1, x2, y2);
+			}
+		}
+
+		pyramid.endFrame();
+	}
+
+	/** Paints the matching part of the nearest cached coarser tile while a tile is still being generated. */
+	private void paintCoarserTile(Graphics2D g, TilePyramid pyramid, int level, int column, int row, int x1, int y1, int x2, int y2)
+	{
+		for (int coarser = level + 1; coarser < pyramid.getLevelCount(); coarser++)
+		{
+			int shift = coarser - level;
+			BufferedImage tile = pyramid.peekTile(coarser, column >> shift, row >> shift);
+
+			if (tile == null)
+				continue;
+
+			int span = TilePyramid.TILE_SIZE >> shift;
+			int sx = (column & ((1 << shift) - 1)) * span;
+			int sy = (row & ((1 << shift) - 1)) * span;
+			g.drawImage(tile, x1, y1, x2, y2, sx, sy, Math.min(sx + span, tile.getWidth()), Math.min(sy + span, tile.getHeight()), null);
+			return;
+		}
+	}
+
+	/** Converts a horizontal image coordinate to a control coordinate. */
+	private int toScreenX(double x)
+	{
+		return (int) Math.round((x - this.viewX) * this.zoom);
+	}
+
+	/** Converts a vertical image coordinate to a control coordinate. */
+	private int toScreenY(double y)
+	{
+		return (int) Math.round((y - this.viewY) * this.zoom);
+	}
+
+	/**
+	 * Creates an image whose pixel layout matches the given configuration. When there is no configuration (headless or
+	 * not yet displayable) TYPE_INT_ARGB_PRE is used, or TYPE_INT_RGB for opaque images so blits skip blending.
+	 */
+	static BufferedImage createCompatibleImage(GraphicsConfiguration gc, int width, int height, int transparency)
+	{
+		if (gc == null)
+			return new BufferedImage(width, height, transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+
+		return gc.createCompatibleImage(width, height, transparency);
+	}
+
+	/** Gets the color model of the images {@link #createCompatibleImage} creates, without allocating one. */
+	static ColorModel getCompatibleColorModel(GraphicsConfiguration gc, int transparency)
+	{
+		if (gc == null)
+			return transparency == Transparency.OPAQUE ? OPAQUE_COLOR_MODEL : TRANSLUCENT_COLOR_MODEL;
+
+		return gc.getColorModel(transparency);
+	}
+
+	/** Gets the transparency of an image, assuming TRANSLUCENT when it cannot be known without loading it. */
+	static int getTransparency(Image img)
+	{
+		return img instanceof BufferedImage ? ((BufferedImage) img).getTransparency() : Transparency.TRANSLUCENT;
+	}
+
+	/** Starts loading an image from a File or InputStream, cancelling the previous load. */
+	private void startLoad(Object input)
+	{
+		this.cancelLoad();
+		this.showImage(null, false);
+		this.imageLoad = new ImageLoad(input);
+		this.imageLoad.future = LOADER.submit(this.imageLoad);
+	}
+
+	/** Cancels the image being loaded, if any. */
+	private void cancelLoad()
+	{
+		if (this.imageLoad == null)
+			return;
+
+		this.imageLoad.cancel();
+		this.imageLoad = null;
+	}
+
+	/** Occurs on the EDT when a load produced a new pass or its final image. */
+	private void imageLoaded(ImageLoad load, Image value, boolean isFinal)
+	{
+		if (load != this.imageLoad)
+			return;
+
+		if (isFinal)
+			this.imageLoad = null;
+		else
+			load.previewPending = false;
+
+		// The load started from an empty image, so any image shown meanwhile is an earlier pass of this one.
+		if (value != null)
+			this.showImage(value, this.image != null);
+		else if (isFinal)
+			this.showImage(null, false);
+	}
+
+	// endregion
+
+	// region Nested Classes
+
+	/**
+	 * Decodes an image on a background thread, publishing a preview of every pass of a progressive or interlaced image
+	 * but the last one. A preview is taken when the next pass starts, since readers do not always know how many passes
+	 * there are (JPEG reports an unbounded maxPass), so single pass images and the last pass are never copied. Previews
+	 * are sampled at reduced resolution, from the lattice of pixels decoded so far for coarse interlaced passes and at
+	 * most PREVIEW_SIZE pixels across otherwise; a pass completing while the previous preview is still waiting for the
+	 * EDT is skipped.
+	 */
+	private class ImageLoad implements Runnable, IIOReadUpdateListener
+	{
+		private static final int         PREVIEW_SIZE  = 1024;
+
+		private final Object             input;
+		private volatile boolean         cancelled;
+		private volatile boolean         previewPending;
+		private Future<?>                future;
+		private int                      latticeWidth  = 1;
+		private int                      latticeHeight = 1;
+		private Object                   pixel;
+
+		public ImageLoad(Object input)
+		{
+			this.input = input;
+		}
+
+		/** Stops decoding as soon as possible; the reader is aborted from its own thread on its next update. */
+		public void cancel()
+		{
+			this.cancelled = true;
+
+			// A load cancelled before it started never runs, so its stream is closed here.
+			if (this.future != null && this.future.cancel(false))
+				this.closeInput();
+		}
+
+		public void run()
+		{
+			BufferedImage result = null;
+
+			try
+			{
+				result = this.read();
+			}
+			catch (Exception e)
+			{
+				result = null;
+			}
+			finally
+			{
+				this.closeInput();
+			}
+
+			this.publish(this.cancelled ? null : result, true);
+		}
+
+		/** Closes the input if it is a stream. */
+		private void closeInput()
+		{
+			if (!(this.input instanceof InputStream))
+				return;
+
+			try
+			{
+				((InputStream) this.input).close();
+			}
+			catch (Exception e)
+			{
+			}
+		}
+
+		/** Reads the first image of the input. */
+		private BufferedImage read() throws Exception
+		{
+			ImageInputStream stream = ImageIO.createImageInputStream(this.input);
+
+			if (stream == null)
+				return null;
+
+			try
+			{
+				Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+
+				if (!readers.hasNext() || this.cancelled)
+					return null;
+
+				ImageReader reader = readers.next();
+
+				try
+				{
+					reader.setInput(stream, true, true);
+					reader.addIIOReadUpdateListener(this);
+					return reader.read(0);
+				}
+				finally
+				{
+					reader.dispose();
+				}
+			}
+			finally
+			{
+				stream.close();
+			}
+		}
+
+		/** Hands an image to the EDT. */
+		private void publish(final Image value, final boolean isFinal)
+		{
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run()
+				{
+					imageLoaded(ImageLoad.this, value, isFinal);
+				}
+			});
+		}
+
+		public void passStarted(ImageReader source, BufferedImage theImage, int pass, int minPass, int maxPass, int minX, int minY, int periodX, int periodY, int[] bands)
+		{
+			// The image holds the previous pass until this one writes to it.
+			if (pass > minPass)
+				this.publishPreview(theImage);
+
+			// The pixels decoded so far are spaced as far apart as the area the first pixel of this pass stands for.
+			this.latticeWidth = periodX - minX % periodX;
+			this.latticeHeight = periodY - minY % periodY;
+		}
+
+		public void imageUpdate(ImageReader source, BufferedImage theImage, int minX, int minY, int width, int height, int periodX, int periodY, int[] bands)
+		{
+			if (this.cancelled)
+				source.abort();
+		}
+
+		public void passComplete(ImageReader source, BufferedImage theImage)
+		{
+			if (this.cancelled)
+				source.abort();
+		}
+
+		/** Publishes a preview of the passes decoded so far, unless the previous one has not been shown yet. */
+		private void publishPreview(BufferedImage theImage)
+		{
+			if (this.cancelled || this.previewPending)
+				return;
+
+			this.previewPending = true;
+
+			// Steps are whole multiples of the lattice, so only decoded pixels are sampled.
+			int stepX = this.latticeWidth * Math.max(1, (theImage.getWidth() + PREVIEW_SIZE * this.latticeWidth - 1) / (PREVIEW_SIZE * this.latticeWidth));
+			int stepY = this.latticeHeight * Math.max(1, (theImage.getHeight() + PREVIEW_SIZE * this.latticeHeight - 1) / (PREVIEW_SIZE * this.latticeHeight));
+
+			Raster raster = theImage.getRaster();
+			int width = (theImage.getWidth() + stepX - 1) / stepX;
+			int height = (theImage.getHeight() + stepY - 1) / stepY;
+			WritableRaster sample = raster.createCompatibleWritableRaster(width, height);
+
+			for (int y = 0; y < height; y++)
+			{
+				for (int x = 0; x < width; x++)
+				{
+					this.pixel = raster.getDataElements(x * stepX, y * stepY, this.pixel);
+					sample.setDataElements(x, y, this.pixel);
+				}
+			}
+
+			BufferedImage preview = new BufferedImage(theImage.getColorModel(), sample, theImage.isAlphaPremultiplied(), null);
+			this.publish(new PreviewImage(preview, theImage.getWidth(), theImage.getHeight()), false);
+		}
+
+		public void thumbnailPassStarted(ImageReader source, BufferedImage theThumbnail, int pass, int minPass, int maxPass, int minX, int minY, int periodX, int periodY, int[] bands)
+		{
+		}
+
+		public void thumbnailUpdate(ImageReader source, BufferedImage theThumbnail, int minX, int minY, int width, int height, int periodX, int periodY, int[] bands)
+		{
+		}
+
+		public void thumbnailPassComplete(ImageReader source, BufferedImage theThumbnail)
+		{
+		}
+	}
+
+	/** Low resolution preview that reports the logical size of the full image it stands for. */
+	private static class PreviewImage extends AbstractMultiResolutionImage
+	{
+		private final BufferedImage preview;
+		private final int           width;
+		private final int           height;
+
+		public PreviewImage(BufferedImage preview, int width, int height)
+		{
+			this.preview = preview;
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public int getWidth(ImageObserver observer)
+		{
+			return this.width;
+		}
+
+		@Override
+		public int getHeight(ImageObserver observer)
+		{
+			return this.height;
+		}
+
+		@Override
+		public Image getResolutionVariant(double destImageWidth, double destImageHeight)
+		{
+			return this.preview;
+		}
+
+		@Override
+		public List<Image> getResolutionVariants()
+		{
+			return Collections.<Image>singletonList(this.preview);
+		}
+
+		@Override
+		protected Image getBaseImage()
+		{
+			return this.preview;
+		}
+	}
+
+	/** Handles mouse wheel zoom and drag to pan while in PAN_ZOOM mode. */
+	private class PanZoomListener extends MouseAdapter
+	{
+		@Override
+		public void mousePressed(MouseEvent e)
+		{
+			dragOrigin = e.getPoint();
+		}
+
+		@Override
+		public void mouseReleased(MouseEvent e)
+		{
+			dragOrigin = null;
+		}
+
+		@Override
+		public void mouseDragged(MouseEvent e)
+		{
+			if (sizeMode != SizeMode.PAN_ZOOM || image == null || dragOrigin == null)
+				return;
+
+			viewX -= (e.getX() - dragOrigin.x) / zoom;
+			viewY -= (e.getY() - dragOrigin.y) / zoom;
+			dragOrigin = e.getPoint();
+			repaint();
+		}
+
+		@Override
+		public void mouseWheelMoved(MouseWheelEvent e)
+		{
+			if (sizeMode != SizeMode.PAN_ZOOM || image == null)
+				return;
+
+			double minZoom = Math.min(1.0, (double) TilePyramid.TILE_SIZE / Math.max(image.getWidth(null), image.getHeight(null)));
+			double value = Math.max(minZoom, Math.min(MAX_ZOOM, zoom * Math.pow(ZOOM_STEP, -e.getPreciseWheelRotation())));
+
+			// Keeps the image point under the cursor in place.
+			viewX += e.getX() / zoom - e.getX() / value;
+			viewY += e.getY() / zoom - e.getY() / value;
+			zoom = value;
+			repaint();
+		}
+	}
+
+	/**
+	 * Icon that paints a copy of its image converted once to the pixel layout of the screen it is shown on, so repaints
+	 * are plain blits instead of per-pixel format conversions. The copy is rebuilt when the component moves to a
+	 * different GraphicsConfiguration. The icon has a logical size, so an image with device resolution maps one to one
+	 * to the screen pixels.
+	 */
+	static class CompatibleImageIcon extends ImageIcon
+	{
+		private static final long serialVersionUID = -2254360711520917043L;
+
+		private transient BufferedImage         rendition;
+		private transient GraphicsConfiguration renditionConfiguration;
+		private final int                       width;
+		private final int                       height;
+
+		public CompatibleImageIcon(Image image, int width, int height)
+		{
+			super(image);
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public int getIconWidth()
+		{
+			return this.width;
+		}
+
+		@Override
+		public int getIconHeight()
+		{
+			return this.height;
+		}
+
+		@Override
+		public synchronized void paintIcon(Component c, Graphics g, int x, int y)
+		{
+			GraphicsConfiguration gc = c != null ? c.getGraphicsConfiguration() : null;
+
+			if (this.rendition == null || this.renditionConfiguration != gc)
+			{
+				this.rendition = this.createRendition(gc);
+				this.renditionConfiguration = gc;
+			}
+
+			if (this.rendition.getWidth() == this.width && this.rendition.getHeight() == this.height)
+			{
+				g.drawImage(this.rendition, x, y, c);
+				return;
+			}
+
+			Graphics2D g2 = (Graphics2D) g.create();
+
+			try
+			{
+				g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g2.drawImage(this.rendition, x, y, this.width, this.height, c);
+			}
+			finally
+			{
+				g2.dispose();
+			}
+		}
+
+		/** Converts the icon image into the layout of the given configuration, reusing it if it already matches. */
+		private BufferedImage createRendition(GraphicsConfiguration gc)
+		{
+			Image source = this.getImage();
+			int transparency = PictureBox.getTransparency(source);
+
+			if (source instanceof BufferedImage && ((BufferedImage) source).getColorModel().equals(PictureBox.getCompatibleColorModel(gc, transparency)))
+				return (BufferedImage) source;
+
+			BufferedImage result = PictureBox.createCompatibleImage(gc, source.getWidth(null), source.getHeight(null), transparency);
+			Graphics2D g = result.createGraphics();
+
+			try
+			{
+				g.drawImage(source, 0, 0, null);
+			}
+			finally
+			{
+				g.dispose();
+			}
+
+			return result;
+		}
 	}
 
 	// endregion
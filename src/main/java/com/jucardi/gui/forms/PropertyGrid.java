@@ -17,14 +17,21 @@ import java.awt.Color;
 import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.geom.Rectangle2D;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
@@ -33,6 +40,8 @@ import javax.swing.JSeparator;
 import javax.swing.JTextField;
 import javax.swing.JLabel;
 import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import net.miginfocom.swing.MigLayout;
@@ -43,11 +52,14 @@ public class PropertyGrid extends JPanel
 	// region Constants
 	private static final long       serialVersionUID             = 9145338406554707501L;
 	private static final double     COLUMN_SEPARATION            = 15.00;
+	private static final int        FRAME_INTERVAL               = 16;
+	private static final Object     REFRESH_REQUEST              = new Object();
 	// endregion
 
 	// region Fields
-	private Object                  currentObject                   = null;
-	private int                     columIndex                      = 0;
+	private volatile Object         currentObject                   = null;
+	private Object                  displayedObject                 = null;
+	private volatile int            columIndex                      = 0;
 	private Map<String, JComponent> componentValueList              = new HashMap<String, JComponent>();
 	private Map<String, JLabel>     displayLabelList                = new HashMap<String, JLabel>();
 	private Map<String, Method>     setters                         = new HashMap<String, Method>();
@@ -56,12 +68,18 @@ public class PropertyGrid extends JPanel
 	private Map<String, String>     displayNames                    = new HashMap<String, String>();
 	private Map<String, AccessMode> accessModeList                  = new HashMap<String, AccessMode>();
 	private Map<String, Field>      fieldInfoList                   = new HashMap<String, Field>();
-	private String                  firstColumnTitle                = null;
-	private String                  secondColumnTitle               = null;
-	private boolean                 isDisplayInfoAnnotationRequired = false;
-	private boolean                 loadGettersAndSetters           = true;
-	private boolean                 loadFields                      = false;
+	private volatile String         firstColumnTitle                = null;
+	private volatile String         secondColumnTitle               = null;
+	private volatile boolean        isDisplayInfoAnnotationRequired = false;
+	private volatile boolean        loadGettersAndSetters           = true;
+	private volatile boolean        loadFields                      = false;
 	private List<String>            propertiesThatStartWithIs       = new ArrayList<String>();
+	private final Queue<Object>     pendingUpdates                  = new ConcurrentLinkedQueue<Object>();
+	private final AtomicBoolean     isDispatchScheduled             = new AtomicBoolean();
+	private final AtomicInteger     updateCount                     = new AtomicInteger();
+	private JPanel                  headerPanel                     = null;
+	private long                    lastDispatchTime                = 0;
+	private boolean                 isUpdatingVisualValues          = false;
 	// endregion
 
 	// region Enums
@@ -106,7 +124,7 @@ public class PropertyGrid extends JPanel
 		return this.currentObject;
 	}
 
-	/** Sets the current object. */
+	/** Sets the current object. May be called from any thread; the grid is rebuilt on the EDT. */
 	public void setCurrentObject(Object object)
 	{
 		this.currentObject = object;
@@ -181,12 +199,58 @@ public class PropertyGrid extends JPanel
 
 	// region Public Methods
 
-	/** Refreshes the visual display. */
+	/**
+	 * Refreshes the visual display. May be called from any thread: requests are queued and applied on the EDT, where
+	 * any amount of requests made within a frame results in a single rebuild.
+	 */
 	public void refresh()
 	{
-		this.reset();
-		this.loadGettersAndSetters();
-		this.setHeader();
+		this.postUpdate(REFRESH_REQUEST);
+	}
+
+	/**
+	 * Refreshes the displayed value of a single property after it was changed on the current object. May be called from
+	 * any thread; only the latest value of each property is displayed, at most once per frame.
+	 */
+	public void refreshProperty(String propertyName)
+	{
+		if (propertyName != null)
+			this.postUpdate(propertyName);
+	}
+
+	/**
+	 * Suspends rebuilding, layout and repainting of the grid until the matching {@link #endUpdate()}, so several settings
+	 * and properties can be changed with a single update. Scopes can be nested; may be called from any thread.
+	 */
+	public void beginUpdate()
+	{
+		this.updateCount.incrementAndGet();
+	}
+
+	/**
+	 * Closes a scope opened by {@link #beginUpdate()}. When the outermost scope closes, every change requested within it
+	 * is applied in a single pass.
+	 *
+	 * @throws IllegalStateException if there is no open scope.
+	 */
+	public void endUpdate()
+	{
+		int count = this.updateCount.decrementAndGet();
+
+		if (count < 0)
+		{
+			this.updateCount.incrementAndGet();
+			throw new IllegalStateException("endUpdate() called without a matching beginUpdate().");
+		}
+
+		if (count == 0 && !this.pendingUpdates.isEmpty())
+			this.requestDispatch();
+	}
+
+	/** Indicates whether updates are currently suspended by {@link #beginUpdate()}. */
+	public boolean isUpdating()
+	{
+		return this.updateCount.get() > 0;
 	}
 
 	/** Returns the properties count. */
@@ -199,9 +263,121 @@ public class PropertyGrid extends JPanel
 
 	// region Methods
 
-	/** Sets the background color. */
-	public void setBackground(Color bg)
+	/** Queues an update request and schedules its dispatch. */
+	private void postUpdate(Object request)
+	{
+		this.pendingUpdates.add(request);
+
+		if (this.updateCount.get() == 0)
+			this.requestDispatch();
+	}
+
+	/** Schedules the dispatch of the pending updates; on the EDT they are applied immediately. */
+	private void requestDispatch()
+	{
+		if (SwingUtilities.isEventDispatchThread())
+		{
+			this.dispatchUpdates();
+			return;
+		}
+
+		if (!this.isDispatchScheduled.compareAndSet(false, true))
+			return;
+
+		SwingUtilities.invokeLater(new Runnable() {
+			public void run()
+			{
+				scheduleDispatch();
+			}
+		});
+	}
+
+	/** Dispatches the pending updates now, or when the current frame interval elapses if one was dispatched recently. */
+	private void scheduleDispatch()
+	{
+		long wait = this.lastDispatchTime + FRAME_INTERVAL - System.currentTimeMillis();
+
+		if (wait <= 0)
+		{
+			this.dispatchUpdates();
+			return;
+		}
+
+		this.dispatchTimer.setInitialDelay((int) wait);
+		this.dispatchTimer.restart();
+	}
+
+	/** Applies every pending update in a single pass; must be called on the EDT. */
+	private void dispatchUpdates()
 	{
+		this.isDispatchScheduled.set(false);
+
+		if (this.updateCount.get() > 0)
+			return;
+
+		boolean refreshAll = false;
+		Set<String> properties = new LinkedHashSet<String>();
+
+		for (Object request = this.pendingUpdates.poll(); request != null; request = this.pendingUpdates.poll())
+		{
+			if (request == REFRESH_REQUEST)
+				refreshAll = true;
+			else
+				properties.add((String) request);
+		}
+
+		if (!refreshAll && properties.isEmpty())
+			return;
+
+		this.lastDispatchTime = System.currentTimeMillis();
+		this.isUpdatingVisualValues = true;
+
+		try
+		{
+			if (refreshAll)
+			{
+				// Edits keep going to the object the rows were built for until this rebuild, even if a newer one was set.
+				this.displayedObject = this.currentObject;
+				this.reset();
+				this.loadGettersAndSetters();
+				this.setHeader();
+			}
+			else
+			{
+				for (String property : properties)
+				{
+					if (this.componentValueList.containsKey(property))
+						this.setVisualValue(property);
+				}
+			}
+		}
+		finally
+		{
+			this.isUpdatingVisualValues = false;
+		}
+
+		this.revalidate();
+		this.repaint();
+	}
+
+	/**
+	 * Sets the background color. May be called from any thread; off the EDT the change is applied on the EDT, except
+	 * while the grid is being constructed and its children do not exist yet.
+	 */
+	public void setBackground(final Color bg)
+	{
+		if (this.scrollPane != null && !SwingUtilities.isEventDispatchThread())
+		{
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run()
+				{
+					setBackground(bg);
+				}
+			});
+
+			return;
+		}
+
 		super.setBackground(bg);
 
 		if (this.scrollPane != null)
@@ -310,7 +486,7 @@ public class PropertyGrid extends JPanel
 		this.scrollPane.setViewportView(this.panel);
 	}
 
-	/** Loads the Getters and Setters of the current object. */
+	/** Loads the Getters and Setters of the displayed object. */
 	private void loadGettersAndSetters()
 	{
 		if (!this.loadGettersAndSetters)
@@ -318,7 +494,7 @@ public class PropertyGrid extends JPanel
 
 		try
 		{
-			Class<? extends Object> c = this.currentObject.getClass();
+			Class<? extends Object> c = this.displayedObject.getClass();
 
 			for (Method method : c.getMethods())
 			{
@@ -395,7 +571,7 @@ public class PropertyGrid extends JPanel
 		}
 	}
 
-	/** Loads the public fields of the current object. */
+	/** Loads the public fields of the displayed object. */
 	private void loadFields()
 	{
 		if (!this.loadFields)
@@ -403,7 +579,7 @@ public class PropertyGrid extends JPanel
 
 		try
 		{
-			Class<? extends Object> c = this.currentObject.getClass();
+			Class<? extends Object> c = this.displayedObject.getClass();
 
 			for (Field field : c.getFields())
 			{
@@ -440,9 +616,15 @@ public class PropertyGrid extends JPanel
 		}
 	}
 
-	/** Sets the property grid header if enabled. */
+	/** Sets the property grid header if enabled, replacing the previous one. */
 	private void setHeader()
 	{
+		if (this.headerPanel != null)
+		{
+			this.remove(this.headerPanel);
+			this.headerPanel = null;
+		}
+
 		if (this.firstColumnTitle != null || this.secondColumnTitle != null)
 		{
 			JPanel headerPanel = new JPanel();
@@ -463,6 +645,7 @@ public class PropertyGrid extends JPanel
 			headerPanel.add(separator, BorderLayout.SOUTH);
 
 			this.add(headerPanel, BorderLayout.NORTH);
+			this.headerPanel = headerPanel;
 
 			this.columIndex++;
 		}
@@ -503,7 +686,7 @@ public class PropertyGrid extends JPanel
 
 		try
 		{
-			method.invoke(this.currentObject, value);
+			method.invoke(this.displayedObject, value);
 		}
 		catch (Exception e)
 		{
@@ -523,7 +706,7 @@ public class PropertyGrid extends JPanel
 
 		try
 		{
-			value = getters.get(property).invoke(this.currentObject, (Object[]) null);
+			value = getters.get(property).invoke(this.displayedObject, (Object[]) null);
 		}
 		catch (Exception e)
 		{
@@ -537,6 +720,9 @@ public class PropertyGrid extends JPanel
 	/** Sets the visual value to the given property. */
 	private void setVisualValue(String property)
 	{
+		boolean wasUpdatingVisualValues = this.isUpdatingVisualValues;
+		this.isUpdatingVisualValues = true;
+
 		try
 		{
 			String value = this.getValue(property).toString();
@@ -550,6 +736,10 @@ public class PropertyGrid extends JPanel
 		catch (Exception e)
 		{
 		}
+		finally
+		{
+			this.isUpdatingVisualValues = wasUpdatingVisualValues;
+		}
 	}
 
 	/** Verifies if the property has a setter and disables it's control if it does not. */
@@ -564,6 +754,9 @@ public class PropertyGrid extends JPanel
 	/** Occurs when a text box value is changed. */
 	private void textChanged(DocumentEvent e, String propertySender)
 	{
+		if (this.isUpdatingVisualValues)
+			return;
+
 		Object value = null;
 		JTextField currentField = (JTextField) this.componentValueList.get(propertySender);
 
@@ -602,6 +795,9 @@ public class PropertyGrid extends JPanel
 	/** Occurs when a combo box item is changed. */
 	private void comboBoxItemChanged(ActionEvent arg0, String propertySender)
 	{
+		if (this.isUpdatingVisualValues)
+			return;
+
 		JComboBox currentField = (JComboBox) this.componentValueList.get(propertySender);
 		Object value = currentField.getSelectedItem();
 
@@ -648,11 +844,18 @@ public class PropertyGrid extends JPanel
 		this.setLayout(new BorderLayout());
 		this.scrollPane.setBorder(null);
 		this.add(this.scrollPane, BorderLayout.CENTER);
+		this.dispatchTimer.setRepeats(false);
 		this.loadGettersAndSetters();
 	}
 
-	private JPanel      panel      = new JPanel();
-	private JScrollPane scrollPane = new JScrollPane();
+	private JPanel      panel         = new JPanel();
+	private JScrollPane scrollPane    = new JScrollPane();
+	private Timer       dispatchTimer = new Timer(FRAME_INTERVAL, new ActionListener() {
+		public void actionPerformed(ActionEvent e)
+		{
+			dispatchUpdates();
+		}
+	});
 
 	// endregion
 }
@@ -0,0 +1,32 @@
+/**
+ * @file						SizeMode.java
+ * @author					juan.diaz
+ * @date						08/03/2012
+ * @copyright		  	Jucardi. All Rights Reserved.
+ *
+ *  This software may be modified and distributed under the terms
+ *  of the MIT license.  See the LICENSE file for details.
+ */
+package com.jucardi.gui.forms;
+
+/** Specifies how an image is positioned within a PictureBox. */
+public enum SizeMode
+{
+	/** The image is placed in the upper-left corner and clipped if it is larger than the PictureBox. */
+	NORMAL,
+
+	/** The image is stretched or shrunk to fit the size of the PictureBox. */
+	STRETCH,
+
+	/** The PictureBox is sized equal to the size of the image. */
+	AUTOSIZE,
+
+	/** The image is displayed in the center of the PictureBox. */
+	CENTER,
+
+	/** The image is sized proportionally to fit the PictureBox. */
+	ZOOM,
+
+	/** The image can be zoomed with the mouse wheel and panned by dragging; drawn from a tile pyramid. */
+	PAN_ZOOM
+}
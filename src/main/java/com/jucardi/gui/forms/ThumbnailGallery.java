@@ -0,0 +1,499 @@
+/**
+ * @file						ThumbnailGallery.java
+ * @author					juan.diaz
+ * @date						19/10/2026
+ * @copyright		  	Jucardi. All Rights Reserved.
+ *
+ *  This software may be modified and distributed under the terms
+ *  of the MIT license.  See the LICENSE file for details.
+ */
+package com.jucardi.gui.forms;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+
+/**
+ * Scrolling grid of image thumbnails. Only the cells in the visible area exist, and they are reused as the grid scrolls.
+ * Thumbnails are decoded and scaled on a bounded worker pool in the order their cells become visible, work for cells
+ * that scroll away is cancelled, and decoded thumbnails are kept in a memory cache limited by a byte budget.
+ */
+public class ThumbnailGallery extends JPanel
+{
+	// region Constants
+
+	private static final long serialVersionUID       = -6179347271305863340L;
+	private static final int  CELL_PADDING           = 8;
+	private static final int  DEFAULT_THUMBNAIL_SIZE = 128;
+	private static final long DEFAULT_CACHE_BUDGET   = 64L * 1024 * 1024;
+
+	// endregion
+
+	// region Fields
+
+	private final GridPanel                    grid          = new GridPanel();
+	private final JScrollPane                  scrollPane    = new JScrollPane(this.grid);
+	private final Map<Integer, PictureBox>     visibleCells  = new HashMap<Integer, PictureBox>();
+	private final Deque<PictureBox>            cellPool      = new ArrayDeque<PictureBox>();
+	private final Map<Integer, Future<?>>      loading       = new HashMap<Integer, Future<?>>();
+	private final transient ThumbnailCache     cache         = new ThumbnailCache(DEFAULT_CACHE_BUDGET);
+	private final transient ThreadPoolExecutor executor;
+	private List<File>                         files         = Collections.emptyList();
+	private int                                thumbnailSize = DEFAULT_THUMBNAIL_SIZE;
+	private int                                columnCount   = 1;
+
+	// endregion
+
+	// region Constructor
+
+	/** Creates a gallery decoding thumbnails on up to half of the available processors. */
+	public ThumbnailGallery()
+	{
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+	}
+
+	/** Creates a gallery decoding thumbnails on up to the given amount of worker threads. */
+	public ThumbnailGallery(int workerCount)
+	{
+		this.executor = new ThreadPoolExecutor(workerCount, workerCount, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "ThumbnailGallery");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		this.executor.allowCoreThreadTimeOut(true);
+
+		this.initialize();
+	}
+
+	// endregion
+
+	// region Properties
+
+	/** Gets the image files shown in the gallery. */
+	public List<File> getFiles()
+	{
+		return this.files;
+	}
+
+	/** Sets the image files shown in the gallery. */
+	public void setFiles(List<File> value)
+	{
+		this.files = value != null ? new ArrayList<File>(value) : Collections.<File>emptyList();
+		this.clearCells();
+		this.scrollPane.getViewport().setViewPosition(new Point(0, 0));
+		this.layoutCells();
+	}
+
+	/** Gets the maximum width and height of a thumbnail, in pixels. */
+	public int getThumbnailSize()
+	{
+		return this.thumbnailSize;
+	}
+
+	/** Sets the maximum width and height of a thumbnail, in pixels. Cached thumbnails are discarded. */
+	public void setThumbnailSize(int value)
+	{
+		this.thumbnailSize = value;
+		this.cache.clear();
+		this.clearCells();
+		this.layoutCells();
+	}
+
+	/** Gets the maximum amount of memory, in bytes, used by cached thumbnails. */
+	public long getCacheBudget()
+	{
+		return this.cache.getBudget();
+	}
+
+	/** Sets the maximum amount of memory, in bytes, used by cached thumbnails. */
+	public void setCacheBudget(long value)
+	{
+		this.cache.setBudget(value);
+	}
+
+	// endregion
+
+	// region Methods
+
+	/** Removes every cell, cancelling their pending thumbnails. */
+	private void clearCells()
+	{
+		for (Future<?> future : this.loading.values())
+			future.cancel(false);
+
+		this.loading.clear();
+		this.executor.purge();
+
+		for (PictureBox cell : this.visibleCells.values())
+			this.recycleCell(cell);
+
+		this.visibleCells.clear();
+	}
+
+	/** Creates, reuses and positions the cells of the visible area, and releases the ones that scrolled away. */
+	private void layoutCells()
+	{
+		int cellSize = this.thumbnailSize + CELL_PADDING;
+		Rectangle view = this.scrollPane.getViewport().getViewRect();
+		int columns = Math.max(1, view.width / cellSize);
+		int rows = (this.files.size() + columns - 1) / columns;
+		Dimension size = new Dimension(columns * cellSize, rows * cellSize);
+
+		if (columns != this.columnCount)
+		{
+			this.columnCount = columns;
+			this.clearCells();
+		}
+
+		if (!size.equals(this.grid.getPreferredSize()))
+		{
+			this.grid.setPreferredSize(size);
+			this.grid.revalidate();
+		}
+
+		int first = Math.max(0, view.y / cellSize) * columns;
+		int last = view.height > 0 ? Math.min(this.files.size() - 1, ((view.y + view.height - 1) / cellSize + 1) * columns - 1) : first - 1;
+
+		for (Iterator<Map.Entry<Integer, PictureBox>> it = this.visibleCells.entrySet().iterator(); it.hasNext();)
+		{
+			Map.Entry<Integer, PictureBox> entry = it.next();
+			int index = entry.getKey();
+
+			if (index >= first && index <= last)
+				continue;
+
+			Future<?> future = this.loading.remove(index);
+
+			if (future != null)
+				future.cancel(false);
+
+			this.recycleCell(entry.getValue());
+			it.remove();
+		}
+
+		// Drops the cancelled tasks from the queue so they do not pile up while scrolling quickly.
+		this.executor.purge();
+
+		for (int index = first; index <= last; index++)
+		{
+			if (this.visibleCells.containsKey(index))
+				continue;
+
+			PictureBox cell = this.cellPool.isEmpty() ? new PictureBox() : this.cellPool.pop();
+			cell.setSizeMode(SizeMode.CENTER);
+			cell.setBounds((index % columns) * cellSize, (index / columns) * cellSize, cellSize, cellSize);
+			cell.setTag(this.files.get(index));
+			this.visibleCells.put(index, cell);
+			this.grid.add(cell);
+
+			BufferedImage thumbnail = this.cache.get(this.files.get(index));
+
+			if (thumbnail != null)
+				cell.setImage(thumbnail);
+			else
+				this.loadThumbnail(index);
+		}
+
+		this.grid.repaint();
+	}
+
+	/** Detaches a cell from the grid and returns it to the pool. */
+	private void recycleCell(PictureBox cell)
+	{
+		this.grid.remove(cell);
+		cell.setImage(null);
+		cell.setTag(null);
+		this.cellPool.push(cell);
+	}
+
+	/** Queues the decoding of the thumbnail of the given index. */
+	private void loadThumbnail(final int index)
+	{
+		final File file = this.files.get(index);
+		final int size = this.thumbnailSize;
+
+		FutureTask<BufferedImage> task = new FutureTask<BufferedImage>(new Callable<BufferedImage>() {
+			public BufferedImage call()
+			{
+				return ThumbnailGallery.decodeThumbnail(file, size);
+			}
+		}) {
+			@Override
+			protected void done()
+			{
+				if (this.isCancelled())
+					return;
+
+				final Future<?> task = this;
+				BufferedImage result = null;
+
+				try
+				{
+					result = this.get();
+				}
+				catch (Exception e)
+				{
+					result = null;
+				}
+
+				final BufferedImage thumbnail = result;
+
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run()
+					{
+						thumbnailLoaded(index, file, size, task, thumbnail);
+					}
+				});
+			}
+		};
+
+		this.loading.put(index, task);
+		this.executor.execute(task);
+	}
+
+	/** Occurs on the EDT when a thumbnail has been decoded by the given task. */
+	private void thumbnailLoaded(int index, File file, int size, Future<?> task, BufferedImage thumbnail)
+	{
+		// The index may have been released and requested again meanwhile; only its current task is forgotten.
+		if (this.loading.get(index) == task)
+			this.loading.remove(index);
+
+		if (size != this.thumbnailSize)
+			return;
+
+		if (thumbnail != null)
+			this.cache.put(file, thumbnail);
+
+		PictureBox cell = this.visibleCells.get(index);
+
+		if (cell == null || cell.getTag() != file)
+			return;
+
+		if (thumbnail != null)
+			cell.setImage(thumbnail);
+	}
+
+	/** Decodes an image subsampled close to the given size and scales it to fit; null if it cannot be decoded. */
+	private static BufferedImage decodeThumbnail(File file, int size)
+	{
+		BufferedImage image = null;
+
+		try
+		{
+			ImageInputStream input = ImageIO.createImageInputStream(file);
+
+			if (input == null)
+				return null;
+
+			try
+			{
+				Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+
+				if (!readers.hasNext())
+					return null;
+
+				ImageReader reader = readers.next();
+
+				try
+				{
+					reader.setInput(input, true, true);
+					int subsampling = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / size);
+					ImageReadParam param = reader.getDefaultReadParam();
+					param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+					image = reader.read(0, param);
+				}
+				finally
+				{
+					reader.dispose();
+				}
+			}
+			finally
+			{
+				input.close();
+			}
+		}
+		catch (Exception e)
+		{
+			return null;
+		}
+
+		double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+		int width = Math.max(1, (int) (image.getWidth() * scale));
+		int height = Math.max(1, (int) (image.getHeight() * scale));
+
+		BufferedImage thumbnail = PictureBox.createCompatibleImage(null, width, height, image.getTransparency());
+		Graphics2D g = thumbnail.createGraphics();
+
+		try
+		{
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(image, 0, 0, width, height, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+
+		return thumbnail;
+	}
+
+	// endregion
+
+	// region Nested Classes
+
+	/** Null layout panel holding the visible cells, sized to the whole grid. */
+	private class GridPanel extends JPanel implements Scrollable
+	{
+		private static final long serialVersionUID = 2916394738061873921L;
+
+		public GridPanel()
+		{
+			super(null);
+		}
+
+		public Dimension getPreferredScrollableViewportSize()
+		{
+			return this.getPreferredSize();
+		}
+
+		public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction)
+		{
+			return (thumbnailSize + CELL_PADDING) / 4;
+		}
+
+		public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction)
+		{
+			return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+		}
+
+		public boolean getScrollableTracksViewportWidth()
+		{
+			return true;
+		}
+
+		public boolean getScrollableTracksViewportHeight()
+		{
+			return false;
+		}
+	}
+
+	/** LRU cache of thumbnails limited by the memory used by their pixels. */
+	private static class ThumbnailCache
+	{
+		private final Map<File, BufferedImage> thumbnails = new LinkedHashMap<File, BufferedImage>(256, 0.75f, true);
+		private long budget;
+		private long usedBytes;
+
+		public ThumbnailCache(long budget)
+		{
+			this.budget = budget;
+		}
+
+		public synchronized long getBudget()
+		{
+			return this.budget;
+		}
+
+		public synchronized void setBudget(long value)
+		{
+			this.budget = value;
+			this.trim();
+		}
+
+		public synchronized BufferedImage get(File file)
+		{
+			return this.thumbnails.get(file);
+		}
+
+		public synchronized void put(File file, BufferedImage thumbnail)
+		{
+			BufferedImage previous = this.thumbnails.put(file, thumbnail);
+
+			if (previous != null)
+				this.usedBytes -= ThumbnailCache.sizeOf(previous);
+
+			this.usedBytes += ThumbnailCache.sizeOf(thumbnail);
+			this.trim();
+		}
+
+		public synchronized void clear()
+		{
+			this.thumbnails.clear();
+			this.usedBytes = 0;
+		}
+
+		/** Evicts the least recently used thumbnails until the cache fits in its budget. */
+		private void trim()
+		{
+			for (Iterator<BufferedImage> it = this.thumbnails.values().iterator(); it.hasNext() && this.usedBytes > this.budget;)
+			{
+				this.usedBytes -= ThumbnailCache.sizeOf(it.next());
+				it.remove();
+			}
+		}
+
+		/** Gets the amount of bytes used by the pixels of an image, from the storage actually allocated for them. */
+		private static long sizeOf(BufferedImage image)
+		{
+			DataBuffer buffer = image.getRaster().getDataBuffer();
+			return (long) buffer.getSize() * buffer.getNumBanks() * DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+		}
+	}
+
+	// endregion
+
+	// region Designer
+
+	/** Initializes the visual state of this control. */
+	private void initialize()
+	{
+		this.setLayout(new BorderLayout());
+		this.scrollPane.setBorder(null);
+		this.add(this.scrollPane, BorderLayout.CENTER);
+
+		this.scrollPane.getViewport().addChangeListener(new ChangeListener() {
+			public void stateChanged(ChangeEvent e)
+			{
+				layoutCells();
+			}
+		});
+	}
+
+	// endregion
+}
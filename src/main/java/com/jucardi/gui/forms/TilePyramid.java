@@ -0,0 +1,387 @@
+/**
+ * @file						TilePyramid.java
+ * @author					juan.diaz
+ * @date						19/10/2026
+ * @copyright		  	Jucardi. All Rights Reserved.
+ *
+ *  This software may be modified and distributed under the terms
+ *  of the MIT license.  See the LICENSE file for details.
+ */
+package com.jucardi.gui.forms;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Mipmap pyramid of fixed-size tiles for an image. Level 0 is the full resolution image and every following level
+ * halves it, down to the first level that fits in a single tile. Tiles are built lazily on a background pool, each one
+ * from the four tiles below it, and kept in an LRU cache sized from the amount of visible tiles. Only requested tiles are
+ * cached; the tiles below them are built transiently unless already cached, so they can never evict visible ones.
+ */
+class TilePyramid
+{
+	// region Constants
+
+	/** Width and height of a tile, in pixels. */
+	static final int TILE_SIZE = 256;
+
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), new ThreadFactory() {
+		public Thread newThread(Runnable r)
+		{
+			Thread thread = new Thread(r, "TilePyramid");
+			thread.setDaemon(true);
+			return thread;
+		}
+	});
+
+	// endregion
+
+	// region Fields
+
+	private final Image                     image;
+	private final GraphicsConfiguration     configuration;
+	private final Runnable                  tileLoaded;
+	private final int                       width;
+	private final int                       height;
+	private final int                       transparency;
+	private final int                       levelCount;
+	private final int                       minTiles;
+	private final Map<Long, BufferedImage>  cache;
+	private final Map<Long, Future<?>>      pending   = new ConcurrentHashMap<Long, Future<?>>();
+	private final Set<Long>                 requested = new HashSet<Long>();
+	private int                             maxTiles;
+	private BufferedImage                   source;
+	private volatile boolean                disposed;
+
+	// endregion
+
+	// region Constructor
+
+	/**
+	 * Creates a pyramid for the given image.
+	 *
+	 * @param image         The full resolution image.
+	 * @param configuration The configuration tiles are made compatible with; may be null.
+	 * @param minTiles      The minimum amount of tiles kept in memory, however few are visible.
+	 * @param tileLoaded    Invoked from a background thread every time a requested tile becomes available.
+	 */
+	TilePyramid(Image image, GraphicsConfiguration configuration, int minTiles, Runnable tileLoaded)
+	{
+		this.image = image;
+		this.configuration = configuration;
+		this.tileLoaded = tileLoaded;
+		this.width = image.getWidth(null);
+		this.height = image.getHeight(null);
+		this.transparency = PictureBox.getTransparency(image);
+		this.minTiles = minTiles;
+		this.maxTiles = minTiles;
+
+		int levels = 1;
+
+		while (Math.max(this.width, this.height) > TILE_SIZE << (levels - 1))
+			levels++;
+
+		this.levelCount = levels;
+
+		this.cache = new LinkedHashMap<Long, BufferedImage>(64, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest)
+			{
+				return this.size() > TilePyramid.this.maxTiles;
+			}
+		};
+	}
+
+	// endregion
+
+	// region Properties
+
+	/** Gets the width of the full resolution image. */
+	int getWidth()
+	{
+		return this.width;
+	}
+
+	/** Gets the height of the full resolution image. */
+	int getHeight()
+	{
+		return this.height;
+	}
+
+	/** Gets the amount of levels in the pyramid. */
+	int getLevelCount()
+	{
+		return this.levelCount;
+	}
+
+	/** Gets the configuration the tiles are compatible with. */
+	GraphicsConfiguration getConfiguration()
+	{
+		return this.configuration;
+	}
+
+	// endregion
+
+	// region Methods
+
+	/** Gets the nearest level with at least the resolution needed to draw the image at the given scale. */
+	int getLevelForScale(double scale)
+	{
+		int level = 0;
+
+		while (level < this.levelCount - 1 && scale <= 1.0 / (1 << (level + 1)))
+			level++;
+
+		return level;
+	}
+
+	/** Gets the amount of tile columns in the given level. */
+	int getColumnCount(int level)
+	{
+		return (this.getLevelWidth(level) + TILE_SIZE - 1) / TILE_SIZE;
+	}
+
+	/** Gets the amount of tile rows in the given level. */
+	int getRowCount(int level)
+	{
+		return (this.getLevelHeight(level) + TILE_SIZE - 1) / TILE_SIZE;
+	}
+
+	/**
+	 * Starts a new frame; tiles scheduled but not requested again before {@link #endFrame()} are cancelled. The cache
+	 * keeps twice the visible tiles plus the ones being built, so panning by a screen does not rebuild what was shown.
+	 */
+	void beginFrame(int visibleTiles)
+	{
+		this.requested.clear();
+
+		synchronized (this.cache)
+		{
+			this.maxTiles = Math.max(this.minTiles, 2 * visibleTiles + this.pending.size());
+		}
+	}
+
+	/** Ends the current frame, cancelling the generation of tiles that are no longer visible. */
+	void endFrame()
+	{
+		for (Iterator<Map.Entry<Long, Future<?>>> it = this.pending.entrySet().iterator(); it.hasNext();)
+		{
+			Map.Entry<Long, Future<?>> entry = it.next();
+
+			if (this.requested.contains(entry.getKey()))
+				continue;
+
+			entry.getValue().cancel(false);
+			it.remove();
+		}
+	}
+
+	/** Gets a tile if it is cached, otherwise schedules its generation and returns null. */
+	BufferedImage getTile(final int level, final int column, final int row)
+	{
+		final Long key = TilePyramid.key(level, column, row);
+		BufferedImage tile = this.peekTile(key);
+
+		if (tile != null || this.disposed)
+			return tile;
+
+		this.requested.add(key);
+
+		if (this.pending.containsKey(key))
+			return null;
+
+		// Registered before it is executed, and removed only by itself, so a finished task never stays pending.
+		FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+			public void run()
+			{
+				if (loadTile(level, column, row) != null && !disposed)
+					tileLoaded.run();
+			}
+		}, null) {
+			@Override
+			protected void done()
+			{
+				pending.remove(key, this);
+			}
+		};
+
+		this.pending.put(key, task);
+		EXECUTOR.execute(task);
+
+		return null;
+	}
+
+	/** Gets a tile only if it is already cached. */
+	BufferedImage peekTile(int level, int column, int row)
+	{
+		return this.peekTile(TilePyramid.key(level, column, row));
+	}
+
+	/** Cancels pending work and releases the cached tiles. */
+	void dispose()
+	{
+		this.disposed = true;
+
+		for (Future<?> future : this.pending.values())
+			future.cancel(false);
+
+		this.pending.clear();
+
+		synchronized (this.cache)
+		{
+			this.cache.clear();
+		}
+	}
+
+	/** Gets the width of the given level. */
+	private int getLevelWidth(int level)
+	{
+		return (this.width + (1 << level) - 1) >> level;
+	}
+
+	/** Gets the height of the given level. */
+	private int getLevelHeight(int level)
+	{
+		return (this.height + (1 << level) - 1) >> level;
+	}
+
+	/** Gets a cached tile by key. */
+	private BufferedImage peekTile(Long key)
+	{
+		synchronized (this.cache)
+		{
+			return this.cache.get(key);
+		}
+	}
+
+	/** Gets a tile from the cache or builds and caches it, on the calling thread; null if the pyramid was disposed. */
+	private BufferedImage loadTile(int level, int column, int row)
+	{
+		Long key = TilePyramid.key(level, column, row);
+		BufferedImage tile = this.peekTile(key);
+
+		if (tile != null)
+			return tile;
+
+		tile = this.buildTile(level, column, row);
+
+		if (tile == null)
+			return null;
+
+		synchronized (this.cache)
+		{
+			this.cache.put(key, tile);
+		}
+
+		return tile;
+	}
+
+	/**
+	 * Builds a tile, from the source image for level 0 or from the four tiles below it otherwise. The tiles below are
+	 * taken from the cache when present and built without caching them otherwise. Returns null if the pyramid is
+	 * disposed meanwhile, so a coarse tile does not keep rebuilding the levels below it.
+	 */
+	private BufferedImage buildTile(int level, int column, int row)
+	{
+		if (this.disposed)
+			return null;
+
+		int x = column * TILE_SIZE;
+		int y = row * TILE_SIZE;
+		int tileWidth = Math.min(TILE_SIZE, this.getLevelWidth(level) - x);
+		int tileHeight = Math.min(TILE_SIZE, this.getLevelHeight(level) - y);
+
+		BufferedImage tile = PictureBox.createCompatibleImage(this.configuration, tileWidth, tileHeight, this.transparency);
+		Graphics2D g = tile.createGraphics();
+
+		try
+		{
+			if (level == 0)
+			{
+				g.drawImage(this.getSource(), 0, 0, tileWidth, tileHeight, x, y, x + tileWidth, y + tileHeight, null);
+				return tile;
+			}
+
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+
+			for (int dy = 0; dy < 2; dy++)
+			{
+				for (int dx = 0; dx < 2; dx++)
+				{
+					int childColumn = column * 2 + dx;
+					int childRow = row * 2 + dy;
+
+					if (childColumn >= this.getColumnCount(level - 1) || childRow >= this.getRowCount(level - 1))
+						continue;
+
+					BufferedImage child = this.peekTile(TilePyramid.key(level - 1, childColumn, childRow));
+
+					if (child == null)
+						child = this.buildTile(level - 1, childColumn, childRow);
+
+					if (child == null)
+						return null;
+
+					int half = TILE_SIZE / 2;
+					g.drawImage(child, dx * half, dy * half, (child.getWidth() + 1) / 2, (child.getHeight() + 1) / 2, null);
+				}
+			}
+		}
+		finally
+		{
+			g.dispose();
+		}
+
+		return tile;
+	}
+
+	/** Gets the full resolution image as a BufferedImage, converting it the first time if needed. */
+	private synchronized BufferedImage getSource()
+	{
+		if (this.source != null)
+			return this.source;
+
+		if (this.image instanceof BufferedImage)
+		{
+			this.source = (BufferedImage) this.image;
+			return this.source;
+		}
+
+		this.source = new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_ARGB_PRE);
+		Graphics2D g = this.source.createGraphics();
+
+		try
+		{
+			g.drawImage(this.image, 0, 0, null);
+		}
+		finally
+		{
+			g.dispose();
+		}
+
+		return this.source;
+	}
+
+	/** Packs a tile position into a cache key. */
+	private static Long key(int level, int column, int row)
+	{
+		return Long.valueOf(((long) level << 56) | ((long) column << 28) | (long) row);
+	}
+
+	// endregion
+}
@@ -0,0 +1,101 @@
+/**
+ * @file						CompatibleImageIconBenchmark.java
+ * @author					juan.diaz
+ * @date						19/10/2026
+ * @copyright		  	Jucardi. All Rights Reserved.
+ *
+ *  This software may be modified and distributed under the terms
+ *  of the MIT license.  See the LICENSE file for details.
+ */
+package com.jucardi.gui.forms;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+
+/**
+ * Headless benchmark of the repaint cost of a PictureBox image, comparing a plain ImageIcon, which converts the pixel
+ * layout on every paint, with the CompatibleImageIcon used by PictureBox, which converts it once.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true com.jucardi.gui.forms.CompatibleImageIconBenchmark
+ * </pre>
+ */
+public class CompatibleImageIconBenchmark
+{
+	private static final int WIDTH      = 2000;
+	private static final int HEIGHT     = 1500;
+	private static final int WARMUP     = 20;
+	private static final int ITERATIONS = 100;
+
+	public static void main(String[] args)
+	{
+		System.setProperty("java.awt.headless", "true");
+
+		int[] types = { BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_BYTE_INDEXED };
+		String[] names = { "TYPE_3BYTE_BGR", "TYPE_BYTE_INDEXED" };
+
+		for (int i = 0; i < types.length; i++)
+		{
+			BufferedImage image = CompatibleImageIconBenchmark.createImage(types[i]);
+			double plain = CompatibleImageIconBenchmark.measure(new ImageIcon(image));
+			double compatible = CompatibleImageIconBenchmark.measure(new PictureBox.CompatibleImageIcon(image, WIDTH, HEIGHT));
+			System.out.printf("%-18s ImageIcon: %6.2f ms/repaint   CompatibleImageIcon: %6.2f ms/repaint%n", names[i], plain, compatible);
+		}
+	}
+
+	/** Creates a gradient filled image of the given type. */
+	private static BufferedImage createImage(int type)
+	{
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+		Graphics2D g = image.createGraphics();
+
+		try
+		{
+			g.setPaint(new GradientPaint(0, 0, Color.RED, WIDTH, HEIGHT, Color.BLUE));
+			g.fillRect(0, 0, WIDTH, HEIGHT);
+		}
+		finally
+		{
+			g.dispose();
+		}
+
+		return image;
+	}
+
+	/** Gets the average time, in milliseconds, of painting the icon into a TYPE_INT_ARGB_PRE back buffer. */
+	private static double measure(Icon icon)
+	{
+		BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+		JLabel component = new JLabel();
+
+		for (int i = 0; i < WARMUP; i++)
+			CompatibleImageIconBenchmark.paint(icon, component, target);
+
+		long start = System.nanoTime();
+
+		for (int i = 0; i < ITERATIONS; i++)
+			CompatibleImageIconBenchmark.paint(icon, component, target);
+
+		return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+	}
+
+	/** Paints the icon once. */
+	private static void paint(Icon icon, JLabel component, BufferedImage target)
+	{
+		Graphics2D g = target.createGraphics();
+
+		try
+		{
+			icon.paintIcon(component, g, 0, 0);
+		}
+		finally
+		{
+			g.dispose();
+		}
+	}
+}